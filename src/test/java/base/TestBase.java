@@ -15,6 +15,8 @@ import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.ITestResult;
 import org.testng.annotations.*;
+import profiling.RecordingWait;
+import profiling.RecordingWindowsDriver;
 
 import java.io.ByteArrayInputStream;
 import java.net.URL;
@@ -51,15 +53,15 @@ public class TestBase {
         options.setCapability("app", appPath);
         options.setCapability("deviceName", "WindowsPC");
         
-        // Initialize the driver
-        driver = new WindowsDriver(new URL(appiumUrl), options);
+        // Initialize the driver (emits JFR events per command when a recording is running)
+        driver = new RecordingWindowsDriver(new URL(appiumUrl), options);
         
         // Set timeouts
         int implicitWait = config.getImplicitWait();
         int explicitWait = config.getExplicitWait();
         
         driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(implicitWait));
-        wait = new WebDriverWait(driver, Duration.ofSeconds(explicitWait));
+        wait = new RecordingWait(driver, Duration.ofSeconds(explicitWait));
         
         // Maximize the window
         try {
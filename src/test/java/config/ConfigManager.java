@@ -3,6 +3,8 @@ package config;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 public class ConfigManager {
@@ -26,6 +28,20 @@ public class ConfigManager {
     public static final String SCREENSHOT_DIRECTORY = "screenshot.directory";
     public static final String LOG_LEVEL = "log.level";
     public static final String LOG_FILE = "log.file";
+    public static final String JFR_ENABLED = "jfr.enabled";
+    public static final String JFR_SETTINGS = "jfr.settings";
+    public static final String JFR_THRESHOLD_PAGE_ACTION = "jfr.threshold.page.action";
+    public static final String JFR_THRESHOLD_WAIT = "jfr.threshold.wait";
+    public static final String JFR_THRESHOLD_DRIVER_COMMAND = "jfr.threshold.driver.command";
+    public static final String JFR_STACKTRACE_WAIT = "jfr.stacktrace.wait";
+    public static final String JFR_STACKTRACE_DRIVER_COMMAND = "jfr.stacktrace.driver.command";
+    public static final String SELECTION_ENABLED = "selection.enabled";
+    public static final String SELECTION_BASE_REF = "selection.base.ref";
+    public static final String SELECTION_INDEX_FILE = "selection.index.file";
+    public static final String SELECTION_SAFETY_CLASSES = "selection.safety.classes";
+    public static final String SELECTION_RUN_ALL_PATHS = "selection.run.all.paths";
+    public static final String ALLURE_HISTORY_DIRECTORY = "allure.history.directory";
+    public static final String ALLURE_HISTORY_LIMIT = "allure.history.limit";
 
     private ConfigManager() {
         loadProperties();
@@ -103,6 +119,14 @@ public class ConfigManager {
         return getString(SCREENSHOT_DIRECTORY, "test-output/screenshots");
     }
 
+    public String getAllureHistoryDirectory() {
+        return getString(ALLURE_HISTORY_DIRECTORY, "allure-history");
+    }
+
+    public int getAllureHistoryLimit() {
+        return getInt(ALLURE_HISTORY_LIMIT, 20);
+    }
+
     // Logging
     public String getLogLevel() {
         return getString(LOG_LEVEL, "INFO");
@@ -112,6 +136,57 @@ public class ConfigManager {
         return getString(LOG_FILE, "test-output/logs/test.log");
     }
 
+    // Profiling
+    public boolean isJfrEnabled() {
+        return getBoolean(JFR_ENABLED, false);
+    }
+
+    public String getJfrSettings() {
+        return getString(JFR_SETTINGS, "default");
+    }
+
+    public int getJfrPageActionThreshold() {
+        return getInt(JFR_THRESHOLD_PAGE_ACTION, 0);
+    }
+
+    public int getJfrWaitThreshold() {
+        return getInt(JFR_THRESHOLD_WAIT, 100);
+    }
+
+    public int getJfrDriverCommandThreshold() {
+        return getInt(JFR_THRESHOLD_DRIVER_COMMAND, 20);
+    }
+
+    public boolean isJfrWaitStackTrace() {
+        return getBoolean(JFR_STACKTRACE_WAIT, true);
+    }
+
+    public boolean isJfrDriverCommandStackTrace() {
+        return getBoolean(JFR_STACKTRACE_DRIVER_COMMAND, false);
+    }
+
+    // Test selection
+    public boolean isSelectionEnabled() {
+        return getBoolean(SELECTION_ENABLED, false);
+    }
+
+    public String getSelectionBaseRef() {
+        return getString(SELECTION_BASE_REF, "origin/main");
+    }
+
+    public String getSelectionIndexFile() {
+        return getString(SELECTION_INDEX_FILE, "target/test-selection/index.properties");
+    }
+
+    public List<String> getSelectionSafetyClasses() {
+        return getList(SELECTION_SAFETY_CLASSES, "");
+    }
+
+    public List<String> getSelectionRunAllPaths() {
+        return getList(SELECTION_RUN_ALL_PATHS, "pom.xml,testng.xml,src/test/java/base/,src/test/java/config/,src/test/java/utils/,"
+            + "src/test/java/profiling/,src/test/java/selection/,src/test/resources/,Release/,WinAppDriver.exe");
+    }
+
     // Helper methods
     private String getString(String key) {
         return getString(key, null);
@@ -129,6 +204,16 @@ public class ConfigManager {
         }
     }
 
+    private List<String> getList(String key, String defaultValue) {
+        List<String> values = new ArrayList<>();
+        for (String value : getString(key, defaultValue).split(",")) {
+            if (!value.trim().isEmpty()) {
+                values.add(value.trim());
+            }
+        }
+        return values;
+    }
+
     private boolean getBoolean(String key, boolean defaultValue) {
         String value = getString(key);
         return value != null ? Boolean.parseBoolean(value) : defaultValue;
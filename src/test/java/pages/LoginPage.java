@@ -7,6 +7,7 @@ import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.Keys;
 import org.openqa.selenium.support.ui.ExpectedConditions;
+import profiling.PageActionEvent;
 import utils.TestUtils;
 
 public class LoginPage extends TestBase {
@@ -31,6 +32,7 @@ public class LoginPage extends TestBase {
     
     // Page Actions
     public void skipWelcomeScreen() {
+        PageActionEvent event = PageActionEvent.start("LoginPage", "skipWelcomeScreen");
         try {
             // First, try to find and swipe on the image element if it exists
             try {
@@ -99,16 +101,24 @@ public class LoginPage extends TestBase {
             }
         } catch (Exception e) {
             TestUtils.log("Error in skipWelcomeScreen: " + e.getMessage(), "ERROR");
+        } finally {
+            event.commit();
         }
     }
     
     
     public void clickLogin() {
-        wait.until(ExpectedConditions.elementToBeClickable(loginButton)).click();
-        TestUtils.log("Clicked on Login button");
+        PageActionEvent event = PageActionEvent.start("LoginPage", "clickLogin");
+        try {
+            wait.until(ExpectedConditions.elementToBeClickable(loginButton)).click();
+            TestUtils.log("Clicked on Login button");
+        } finally {
+            event.commit();
+        }
     }
     
     public void login(String email, String password) {
+        PageActionEvent event = PageActionEvent.start("LoginPage", "login");
         try {
             // Wait for the email field and enter email
             WebElement emailElement = wait.until(ExpectedConditions.elementToBeClickable(
@@ -156,16 +166,21 @@ public class LoginPage extends TestBase {
         } catch (Exception e) {
             TestUtils.log("Login failed: " + e.getMessage(), "ERROR");
             throw new RuntimeException("Login failed", e);
+        } finally {
+            event.commit();
         }
     }
     
     // Verification Methods
     public boolean isLoginPageDisplayed() {
+        PageActionEvent event = PageActionEvent.start("LoginPage", "isLoginPageDisplayed");
         try {
             return wait.until(ExpectedConditions.visibilityOf(emailField)).isDisplayed() &&
                    wait.until(ExpectedConditions.visibilityOf(passwordField)).isDisplayed();
         } catch (Exception e) {
             return false;
+        } finally {
+            event.commit();
         }
     }
 }
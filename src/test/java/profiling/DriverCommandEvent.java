@@ -0,0 +1,45 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event for a single WebDriver command sent to the Appium server
+ */
+@Name("winapp.DriverCommand")
+@Label("Driver Command")
+@Category({"WinApp Automation", "Driver"})
+@Description("Round trip of a single WebDriver command to the Appium server and WinAppDriver")
+@StackTrace(false)
+@Threshold("20 ms")
+public class DriverCommandEvent extends Event {
+    @Label("Command")
+    private final String command;
+
+    @Label("Succeeded")
+    private boolean succeeded;
+
+    public DriverCommandEvent(String command) {
+        this.command = command;
+    }
+
+    /**
+     * Create and begin timing a driver command
+     * @param command WebDriver command name
+     * @return The started event; commit it once the response has been received
+     */
+    public static DriverCommandEvent start(String command) {
+        DriverCommandEvent event = new DriverCommandEvent(command);
+        event.begin();
+        return event;
+    }
+
+    public void setSucceeded(boolean succeeded) {
+        this.succeeded = succeeded;
+    }
+}
@@ -0,0 +1,93 @@
+package profiling;
+
+import org.testng.IClassListener;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestClass;
+import org.testng.ITestResult;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TestNG listener that emits JFR lifecycle events for suites, classes and methods,
+ * and starts/stops the run's flight recording around the outermost suite.
+ */
+public class FlightRecorderListener implements ISuiteListener, IClassListener, IInvokedMethodListener {
+    private static final AtomicInteger runningSuites = new AtomicInteger();
+    private final Map<ISuite, TestSuiteEvent> suiteEvents = new ConcurrentHashMap<>();
+    private final Map<ITestClass, TestClassEvent> classEvents = new ConcurrentHashMap<>();
+    private final ThreadLocal<TestMethodEvent> methodEvent = new ThreadLocal<>();
+
+    @Override
+    public void onStart(ISuite suite) {
+        if (runningSuites.getAndIncrement() == 0) {
+            FlightRecording.start();
+        }
+        TestSuiteEvent event = new TestSuiteEvent(suite.getName());
+        event.begin();
+        suiteEvents.put(suite, event);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        TestSuiteEvent event = suiteEvents.remove(suite);
+        if (event != null) {
+            event.commit();
+        }
+        if (runningSuites.decrementAndGet() == 0) {
+            FlightRecording.stop();
+        }
+    }
+
+    @Override
+    public void onBeforeClass(ITestClass testClass) {
+        TestClassEvent event = new TestClassEvent(testClass.getName());
+        event.begin();
+        classEvents.put(testClass, event);
+    }
+
+    @Override
+    public void onAfterClass(ITestClass testClass) {
+        TestClassEvent event = classEvents.remove(testClass);
+        if (event != null) {
+            event.commit();
+        }
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        TestMethodEvent event = new TestMethodEvent(
+            method.getTestMethod().getRealClass().getName(),
+            method.getTestMethod().getMethodName(),
+            method.isConfigurationMethod());
+        event.begin();
+        methodEvent.set(event);
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        TestMethodEvent event = methodEvent.get();
+        if (event != null) {
+            methodEvent.remove();
+            event.setStatus(getStatus(testResult));
+            event.commit();
+        }
+    }
+
+    private static String getStatus(ITestResult result) {
+        switch (result.getStatus()) {
+            case ITestResult.SUCCESS:
+                return "PASS";
+            case ITestResult.FAILURE:
+                return "FAIL";
+            case ITestResult.SKIP:
+                return "SKIP";
+            default:
+                return String.valueOf(result.getStatus());
+        }
+    }
+}
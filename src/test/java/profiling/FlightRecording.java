@@ -0,0 +1,157 @@
+package profiling;
+
+import config.ConfigManager;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.EventSettings;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Starts and stops the Java Flight Recorder recording for a test run.
+ * The recording and a plain text summary are written to a "jfr" directory
+ * next to the Allure results directory.
+ * Runs from suite listener callbacks where no Allure test is active, so it logs to the console
+ * instead of through TestUtils.log.
+ */
+public final class FlightRecording {
+    private static final String RECORDING_NAME = "test-run";
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static Recording recording;
+
+    private FlightRecording() {
+    }
+
+    /**
+     * Start a recording if enabled in the configuration and none is running yet
+     */
+    public static synchronized void start() {
+        if (!config.isJfrEnabled() || recording != null) {
+            return;
+        }
+        try {
+            recording = new Recording(Configuration.getConfiguration(config.getJfrSettings()));
+            recording.setName(RECORDING_NAME);
+            recording.setToDisk(true);
+            recording.enable(TestSuiteEvent.class);
+            recording.enable(TestClassEvent.class);
+            recording.enable(TestMethodEvent.class);
+            enable(PageActionEvent.class, config.getJfrPageActionThreshold(), false);
+            enable(WaitEvent.class, config.getJfrWaitThreshold(), config.isJfrWaitStackTrace());
+            enable(DriverCommandEvent.class, config.getJfrDriverCommandThreshold(), config.isJfrDriverCommandStackTrace());
+            recording.start();
+            System.out.println("Flight recording started with settings: " + config.getJfrSettings());
+        } catch (Exception e) {
+            recording = null;
+            System.err.println("Could not start flight recording: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stop the running recording, dump it to disk and write the summary
+     */
+    public static synchronized void stop() {
+        if (recording == null) {
+            return;
+        }
+        try {
+            recording.stop();
+            Path directory = getOutputDirectory();
+            Files.createDirectories(directory);
+            Path recordingFile = directory.resolve(RECORDING_NAME + ".jfr");
+            recording.dump(recordingFile);
+            Path summaryFile = directory.resolve(RECORDING_NAME + "-summary.txt");
+            writeSummary(recordingFile, summaryFile);
+            System.out.println("Flight recording saved to " + recordingFile + ", summary at " + summaryFile);
+        } catch (IOException e) {
+            System.err.println("Could not save flight recording: " + e.getMessage());
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static void enable(Class<? extends Event> eventClass, int thresholdMillis, boolean stackTrace) {
+        EventSettings settings = recording.enable(eventClass).withThreshold(Duration.ofMillis(thresholdMillis));
+        if (stackTrace) {
+            settings.withStackTrace();
+        } else {
+            settings.withoutStackTrace();
+        }
+    }
+
+    private static Path getOutputDirectory() {
+        Path results = Paths.get(System.getProperty("allure.results.directory", "allure-results")).toAbsolutePath();
+        return results.resolveSibling("jfr");
+    }
+
+    /**
+     * Aggregate the custom events and GC pauses by name and write them as a table
+     */
+    private static void writeSummary(Path recordingFile, Path summaryFile) throws IOException {
+        Map<String, Stats> stats = new TreeMap<>();
+        Stats gc = new Stats();
+        try (RecordingFile file = new RecordingFile(recordingFile)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String type = event.getEventType().getName();
+                if (type.equals("jdk.GarbageCollection")) {
+                    gc.add(event.getDuration("sumOfPauses"));
+                } else if (type.startsWith("winapp.")) {
+                    stats.computeIfAbsent(describe(event), key -> new Stats()).add(event.getDuration());
+                }
+            }
+        }
+
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(summaryFile))) {
+            out.printf("%-80s %8s %12s %12s%n", "Event", "Count", "Total (ms)", "Max (ms)");
+            for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+                out.printf("%-80s %8d %12d %12d%n", entry.getKey(), entry.getValue().count,
+                    entry.getValue().total.toMillis(), entry.getValue().max.toMillis());
+            }
+            out.printf("%-80s %8d %12d %12d%n", "GC pauses", gc.count, gc.total.toMillis(), gc.max.toMillis());
+        }
+    }
+
+    private static String describe(RecordedEvent event) {
+        String label = event.getEventType().getLabel();
+        if (event.hasField("page")) {
+            return label + ": " + event.getString("page") + "." + event.getString("action");
+        } else if (event.hasField("method")) {
+            return label + ": " + event.getString("testClass") + "." + event.getString("method");
+        } else if (event.hasField("testClass")) {
+            return label + ": " + event.getString("testClass");
+        } else if (event.hasField("suite")) {
+            return label + ": " + event.getString("suite");
+        } else if (event.hasField("command")) {
+            return label + ": " + event.getString("command");
+        } else if (event.hasField("condition")) {
+            return label + ": " + event.getString("condition");
+        }
+        return label;
+    }
+
+    private static class Stats {
+        private long count;
+        private Duration total = Duration.ZERO;
+        private Duration max = Duration.ZERO;
+
+        private void add(Duration duration) {
+            count++;
+            total = total.plus(duration);
+            if (duration.compareTo(max) > 0) {
+                max = duration;
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event for a page object action such as LoginPage.login()
+ */
+@Name("winapp.PageAction")
+@Label("Page Action")
+@Category({"WinApp Automation", "Page Objects"})
+@Description("A page object action, spanning every driver command and wait it performs")
+@StackTrace(false)
+@Threshold("0 ms")
+public class PageActionEvent extends Event {
+    @Label("Page")
+    private final String page;
+
+    @Label("Action")
+    private final String action;
+
+    public PageActionEvent(String page, String action) {
+        this.page = page;
+        this.action = action;
+    }
+
+    /**
+     * Create and begin timing a page action
+     * @param page Simple name of the page object
+     * @param action Name of the action being performed
+     * @return The started event; commit it once the action completes
+     */
+    public static PageActionEvent start(String page, String action) {
+        PageActionEvent event = new PageActionEvent(page, action);
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,31 @@
+package profiling;
+
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * WebDriverWait that emits a {@link WaitEvent} for every condition it waits on
+ */
+public class RecordingWait extends WebDriverWait {
+
+    public RecordingWait(WebDriver driver, Duration timeout) {
+        super(driver, timeout);
+    }
+
+    @Override
+    public <V> V until(Function<? super WebDriver, ? extends V> isTrue) {
+        WaitEvent event = WaitEvent.start(String.valueOf(isTrue));
+        try {
+            return super.until(isTrue);
+        } catch (TimeoutException e) {
+            event.setTimedOut(true);
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package profiling;
+
+import io.appium.java_client.windows.WindowsDriver;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.remote.CommandPayload;
+import org.openqa.selenium.remote.Response;
+
+import java.net.URL;
+
+/**
+ * WindowsDriver that emits a {@link DriverCommandEvent} for every command it sends,
+ * including element commands issued through its RemoteWebElements.
+ * When no recording is running the events are disabled and cost next to nothing.
+ */
+public class RecordingWindowsDriver extends WindowsDriver {
+
+    public RecordingWindowsDriver(URL remoteAddress, Capabilities capabilities) {
+        super(remoteAddress, capabilities);
+    }
+
+    @Override
+    protected Response execute(CommandPayload payload) {
+        DriverCommandEvent event = DriverCommandEvent.start(payload.getName());
+        try {
+            Response response = super.execute(payload);
+            event.setSucceeded(true);
+            return response;
+        } finally {
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event spanning all methods of a single test class, including its configuration methods
+ */
+@Name("winapp.TestClass")
+@Label("Test Class")
+@Category({"WinApp Automation", "Test Lifecycle"})
+@Description("Execution of a test class from @BeforeClass to @AfterClass")
+@StackTrace(false)
+@Threshold("0 ms")
+public class TestClassEvent extends Event {
+    @Label("Test Class")
+    private final String testClass;
+
+    public TestClassEvent(String testClass) {
+        this.testClass = testClass;
+    }
+}
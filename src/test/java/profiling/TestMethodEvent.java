@@ -0,0 +1,42 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event for a single test or configuration method invocation
+ */
+@Name("winapp.TestMethod")
+@Label("Test Method")
+@Category({"WinApp Automation", "Test Lifecycle"})
+@Description("Invocation of a test method or a configuration method such as setup() or afterMethod()")
+@StackTrace(false)
+@Threshold("0 ms")
+public class TestMethodEvent extends Event {
+    @Label("Test Class")
+    private final String testClass;
+
+    @Label("Method")
+    private final String method;
+
+    @Label("Configuration Method")
+    private final boolean configuration;
+
+    @Label("Status")
+    private String status;
+
+    public TestMethodEvent(String testClass, String method, boolean configuration) {
+        this.testClass = testClass;
+        this.method = method;
+        this.configuration = configuration;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,27 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event spanning a complete TestNG suite run
+ */
+@Name("winapp.TestSuite")
+@Label("Test Suite")
+@Category({"WinApp Automation", "Test Lifecycle"})
+@Description("Execution of a TestNG suite")
+@StackTrace(false)
+@Threshold("0 ms")
+public class TestSuiteEvent extends Event {
+    @Label("Suite")
+    private final String suite;
+
+    public TestSuiteEvent(String suite) {
+        this.suite = suite;
+    }
+}
@@ -0,0 +1,45 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event for an explicit wait on a condition
+ */
+@Name("winapp.Wait")
+@Label("Wait")
+@Category({"WinApp Automation", "Waits"})
+@Description("An explicit wait until a condition is met or the timeout elapses")
+@StackTrace(true)
+@Threshold("100 ms")
+public class WaitEvent extends Event {
+    @Label("Condition")
+    private final String condition;
+
+    @Label("Timed Out")
+    private boolean timedOut;
+
+    public WaitEvent(String condition) {
+        this.condition = condition;
+    }
+
+    /**
+     * Create and begin timing a wait
+     * @param condition Description of the condition being waited for
+     * @return The started event; commit it once the wait completes
+     */
+    public static WaitEvent start(String condition) {
+        WaitEvent event = new WaitEvent(condition);
+        event.begin();
+        return event;
+    }
+
+    public void setTimedOut(boolean timedOut) {
+        this.timedOut = timedOut;
+    }
+}
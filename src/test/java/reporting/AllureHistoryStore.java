@@ -0,0 +1,206 @@
+package reporting;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rolling store of Allure history and trend data, kept outside the results directory.
+ * Each run is appended to the store, and each file is trimmed to the last N runs. Tests that
+ * have not run within those N runs are dropped. Report generation therefore reads only the
+ * current run's results plus a history of fixed size, however many runs came before.
+ */
+public class AllureHistoryStore {
+    private static final String HISTORY = "history.json";
+    private static final String HISTORY_TREND = "history-trend.json";
+    private static final String DURATION_TREND = "duration-trend.json";
+    /** Store-only file with the start time of each retained run, used to expire old history entries */
+    private static final String RUNS = "runs.json";
+    private static final String[] STATUSES = {"failed", "broken", "skipped", "passed", "unknown"};
+
+    private final Path directory;
+    private final int limit;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * @param directory Store directory; should survive workspace cleanup between CI runs
+     * @param limit Number of runs to keep
+     */
+    public AllureHistoryStore(Path directory, int limit) {
+        this.directory = directory;
+        this.limit = Math.max(1, limit);
+    }
+
+    /**
+     * Copy the stored history into the results directory for the next report, then record the
+     * run's results in the store. Results that are already recorded are skipped, so running
+     * this twice over the same results is harmless.
+     * @param resultsDirectory Allure results directory of the current run
+     * @return Number of results newly recorded
+     */
+    public int update(Path resultsDirectory) throws IOException {
+        // Results left over from earlier runs may share a history id; only the newest counts
+        Map<String, JsonNode> newest = new LinkedHashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(resultsDirectory, "*-result.json")) {
+            for (Path file : files) {
+                JsonNode result = mapper.readTree(file.toFile());
+                String historyId = result.path("historyId").asText();
+                JsonNode current = newest.get(historyId);
+                if (!historyId.isEmpty()
+                        && (current == null || result.path("start").asLong() > current.path("start").asLong())) {
+                    newest.put(historyId, result);
+                }
+            }
+        }
+
+        ObjectNode history = readObject(HISTORY);
+        Map<String, ObjectNode> items = new LinkedHashMap<>();
+        ObjectNode counts = mapper.createObjectNode();
+        long start = Long.MAX_VALUE;
+        long stop = Long.MIN_VALUE;
+        for (Map.Entry<String, JsonNode> entry : newest.entrySet()) {
+            JsonNode result = entry.getValue();
+            if (isRecorded(history.path(entry.getKey()), result.path("uuid").asText())) {
+                continue;
+            }
+            items.put(entry.getKey(), toHistoryItem(result));
+            String status = result.path("status").asText("unknown");
+            counts.put(status, counts.path(status).asInt() + 1);
+            start = Math.min(start, result.path("start").asLong(start));
+            stop = Math.max(stop, result.path("stop").asLong(stop));
+        }
+        if (items.isEmpty()) {
+            return 0;
+        }
+
+        // The report must see the history before this run; Allure adds the run itself during generation
+        copyTo(resultsDirectory.resolve("history"));
+
+        ArrayNode runs = readArray(RUNS);
+        runs.insert(0, start);
+        trim(runs);
+        long windowStart = runs.get(runs.size() - 1).asLong();
+
+        for (Map.Entry<String, ObjectNode> item : items.entrySet()) {
+            ObjectNode data = history.has(item.getKey()) ? (ObjectNode) history.get(item.getKey())
+                : history.putObject(item.getKey());
+            ArrayNode dataItems = data.has("items") ? (ArrayNode) data.get("items") : data.putArray("items");
+            dataItems.insert(0, item.getValue());
+            trim(dataItems);
+        }
+        for (Iterator<Map.Entry<String, JsonNode>> it = history.fields(); it.hasNext(); ) {
+            JsonNode data = it.next().getValue();
+            JsonNode latest = data.path("items").path(0);
+            if (latest.path("time").path("start").asLong(Long.MAX_VALUE) < windowStart) {
+                it.remove();
+            } else {
+                ((ObjectNode) data).set("statistic", statistic(data.path("items")));
+            }
+        }
+
+        ArrayNode historyTrend = readArray(HISTORY_TREND);
+        long buildOrder = historyTrend.path(0).path("buildOrder").asLong(0) + 1;
+        ObjectNode trendData = mapper.createObjectNode();
+        int total = 0;
+        for (String status : STATUSES) {
+            trendData.put(status, counts.path(status).asInt());
+            total += counts.path(status).asInt();
+        }
+        trendData.put("total", total);
+        ObjectNode trendEntry = historyTrend.insertObject(0);
+        trendEntry.put("buildOrder", buildOrder);
+        trendEntry.set("data", trendData);
+        trim(historyTrend);
+
+        ArrayNode durationTrend = readArray(DURATION_TREND);
+        ObjectNode durationEntry = durationTrend.insertObject(0);
+        durationEntry.put("buildOrder", buildOrder);
+        durationEntry.putObject("data").put("duration", Math.max(0, stop - start));
+        trim(durationTrend);
+
+        Files.createDirectories(directory);
+        write(HISTORY, history);
+        write(HISTORY_TREND, historyTrend);
+        write(DURATION_TREND, durationTrend);
+        write(RUNS, runs);
+        return items.size();
+    }
+
+    private ObjectNode toHistoryItem(JsonNode result) {
+        ObjectNode item = mapper.createObjectNode();
+        item.put("uid", result.path("uuid").asText());
+        item.put("status", result.path("status").asText("unknown"));
+        if (result.path("statusDetails").has("message")) {
+            item.put("statusDetails", result.get("statusDetails").get("message").asText());
+        }
+        long start = result.path("start").asLong();
+        long stop = result.path("stop").asLong();
+        ObjectNode time = item.putObject("time");
+        time.put("start", start);
+        time.put("stop", stop);
+        time.put("duration", stop - start);
+        return item;
+    }
+
+    private ObjectNode statistic(JsonNode items) {
+        ObjectNode statistic = mapper.createObjectNode();
+        for (String status : STATUSES) {
+            statistic.put(status, 0);
+        }
+        for (JsonNode item : items) {
+            String status = item.path("status").asText("unknown");
+            statistic.put(status, statistic.path(status).asInt() + 1);
+        }
+        statistic.put("total", items.size());
+        return statistic;
+    }
+
+    private static boolean isRecorded(JsonNode data, String uid) {
+        for (JsonNode item : data.path("items")) {
+            if (item.path("uid").asText().equals(uid)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void trim(ArrayNode array) {
+        while (array.size() > limit) {
+            array.remove(array.size() - 1);
+        }
+    }
+
+    private void copyTo(Path target) throws IOException {
+        for (String name : new String[] {HISTORY, HISTORY_TREND, DURATION_TREND}) {
+            Path source = directory.resolve(name);
+            if (Files.exists(source)) {
+                Files.createDirectories(target);
+                Files.copy(source, target.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    private ObjectNode readObject(String name) throws IOException {
+        Path file = directory.resolve(name);
+        return Files.exists(file) ? (ObjectNode) mapper.readTree(file.toFile()) : mapper.createObjectNode();
+    }
+
+    private ArrayNode readArray(String name) throws IOException {
+        Path file = directory.resolve(name);
+        return Files.exists(file) ? (ArrayNode) mapper.readTree(file.toFile()) : mapper.createArrayNode();
+    }
+
+    private void write(String name, JsonNode node) throws IOException {
+        mapper.writeValue(directory.resolve(name).toFile(), node);
+    }
+}
@@ -0,0 +1,239 @@
+package reporting;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import config.ConfigManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Post-processing stage for the Allure results directory, run after surefire.
+ * Streams through the result and container files one at a time and
+ * <ul>
+ *   <li>merges consecutive "Log: ..." text attachments written by TestUtils.log into one attachment,</li>
+ *   <li>deduplicates identical attachment files by SHA-256 content hash,</li>
+ *   <li>updates the rolling history store (see {@link AllureHistoryStore}).</li>
+ * </ul>
+ * References are rewritten in a first pass; attachment files are only deleted in a second pass,
+ * once no result or container refers to them any more. Running it again over already processed
+ * results changes nothing.
+ * <pre>
+ * java reporting.AllureResultsCompactor &lt;results directory&gt;
+ * </pre>
+ */
+public final class AllureResultsCompactor {
+    private static final String LOG_ATTACHMENT_PREFIX = "Log: ";
+    private static final String MERGED_LOG_NAME = "Log";
+    private static final String TEXT_PLAIN = "text/plain";
+
+    private final Path resultsDirectory;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, String> sourcesByHash = new HashMap<>();
+    private final Set<String> referencedSources = new HashSet<>();
+    private int mergedAttachments;
+    private int duplicateAttachments;
+    private int deletedFiles;
+
+    public AllureResultsCompactor(Path resultsDirectory) {
+        this.resultsDirectory = resultsDirectory;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path resultsDirectory = Paths.get(args.length > 0 ? args[0]
+            : System.getProperty("allure.results.directory", "target/allure-results"));
+        if (!Files.isDirectory(resultsDirectory)) {
+            System.out.println("No Allure results to compact in " + resultsDirectory);
+            return;
+        }
+
+        AllureResultsCompactor compactor = new AllureResultsCompactor(resultsDirectory);
+        compactor.compact();
+
+        ConfigManager config = ConfigManager.getInstance();
+        AllureHistoryStore history = new AllureHistoryStore(
+            Paths.get(config.getAllureHistoryDirectory()), config.getAllureHistoryLimit());
+        int added = history.update(resultsDirectory);
+
+        System.out.println(String.format(
+            "Compacted %s: merged %d log attachments, deduplicated %d attachments, deleted %d files, recorded %d results in history",
+            resultsDirectory, compactor.mergedAttachments, compactor.duplicateAttachments, compactor.deletedFiles, added));
+    }
+
+    /**
+     * Merge log attachments and deduplicate attachment files across all result and container files
+     */
+    public void compact() throws IOException {
+        // Sorted so that the copy kept for duplicated content does not depend on directory order
+        for (Path file : list("*-{result,container}.json")) {
+            JsonNode root = mapper.readTree(file.toFile());
+            if (compactNode(root)) {
+                mapper.writeValue(file.toFile(), root);
+            }
+        }
+
+        for (Path file : list("*-attachment*")) {
+            if (!referencedSources.contains(file.getFileName().toString())) {
+                Files.delete(file);
+                deletedFiles++;
+            }
+        }
+    }
+
+    public int getMergedAttachments() {
+        return mergedAttachments;
+    }
+
+    public int getDuplicateAttachments() {
+        return duplicateAttachments;
+    }
+
+    public int getDeletedFiles() {
+        return deletedFiles;
+    }
+
+    private Set<Path> list(String glob) throws IOException {
+        Set<Path> paths = new TreeSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(resultsDirectory, glob)) {
+            files.forEach(paths::add);
+        }
+        return paths;
+    }
+
+    /**
+     * Walk a result tree (test results, fixtures and nested steps) and compact every attachment list in it
+     * @return true if the tree was modified
+     */
+    private boolean compactNode(JsonNode node) throws IOException {
+        boolean modified = false;
+        if (node.isObject() && node.path("attachments").isArray()) {
+            modified |= mergeLogs((ArrayNode) node.get("attachments"));
+            modified |= deduplicate((ArrayNode) node.get("attachments"));
+            for (JsonNode attachment : node.get("attachments")) {
+                referencedSources.add(attachment.path("source").asText());
+            }
+        }
+        for (JsonNode child : node) {
+            if (child.isContainerNode()) {
+                modified |= compactNode(child);
+            }
+        }
+        return modified;
+    }
+
+    /**
+     * Replace every run of two or more consecutive log attachments with one attachment holding all lines
+     */
+    private boolean mergeLogs(ArrayNode attachments) throws IOException {
+        List<JsonNode> compacted = new ArrayList<>();
+        List<JsonNode> run = new ArrayList<>();
+        boolean modified = false;
+        for (Iterator<JsonNode> it = attachments.elements(); it.hasNext(); ) {
+            JsonNode attachment = it.next();
+            if (isLog(attachment) && Files.exists(resultsDirectory.resolve(attachment.path("source").asText()))) {
+                run.add(attachment);
+                continue;
+            }
+            modified |= flushRun(run, compacted);
+            compacted.add(attachment);
+        }
+        modified |= flushRun(run, compacted);
+
+        if (modified) {
+            attachments.removeAll();
+            attachments.addAll(compacted);
+        }
+        return modified;
+    }
+
+    private boolean flushRun(List<JsonNode> run, List<JsonNode> compacted) throws IOException {
+        if (run.size() < 2) {
+            compacted.addAll(run);
+            run.clear();
+            return false;
+        }
+
+        StringBuilder content = new StringBuilder();
+        for (JsonNode attachment : run) {
+            Path source = resultsDirectory.resolve(attachment.get("source").asText());
+            content.append(new String(Files.readAllBytes(source), StandardCharsets.UTF_8).trim()).append('\n');
+        }
+        String source = UUID.randomUUID() + "-attachment.txt";
+        Files.write(resultsDirectory.resolve(source), content.toString().getBytes(StandardCharsets.UTF_8));
+
+        ObjectNode merged = mapper.createObjectNode();
+        merged.put("name", MERGED_LOG_NAME);
+        merged.put("source", source);
+        merged.put("type", TEXT_PLAIN);
+        compacted.add(merged);
+        mergedAttachments += run.size();
+        run.clear();
+        return true;
+    }
+
+    /**
+     * Point attachments with already seen content at the first copy; the duplicate file is
+     * deleted later if nothing else refers to it
+     */
+    private boolean deduplicate(ArrayNode attachments) throws IOException {
+        boolean modified = false;
+        for (JsonNode attachment : attachments) {
+            String source = attachment.path("source").asText();
+            Path file = resultsDirectory.resolve(source);
+            if (source.isEmpty() || !Files.exists(file)) {
+                continue;
+            }
+            String original = sourcesByHash.putIfAbsent(hash(file), source);
+            if (original != null && !original.equals(source)) {
+                ((ObjectNode) attachment).put("source", original);
+                duplicateAttachments++;
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    private static boolean isLog(JsonNode attachment) {
+        return attachment.path("name").asText().startsWith(LOG_ATTACHMENT_PREFIX)
+            && TEXT_PLAIN.equals(attachment.path("type").asText());
+    }
+
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            byte[] buffer = new byte[8192];
+            while (in.read(buffer) != -1) {
+                // Reading updates the digest
+            }
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,225 @@
+package selection;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * On-disk index of which test classes use which page objects, page members and locators.
+ * Stored as a properties file with keys of the form:
+ * <pre>
+ * test/tests.LoginTest/file                 = src/test/java/tests/LoginTest.java
+ * test/tests.LoginTest/depends              = src/test/java/tests/BaseLoginTest.java,...
+ * test/tests.LoginTest/uses/pages.LoginPage = LoginPage,login,emailField,...
+ * page/pages.LoginPage/file                 = src/test/java/pages/LoginPage.java
+ * page/pages.LoginPage/member/login         = 120-172
+ * page/pages.LoginPage/locator/emailField   = xpath = "..."
+ * </pre>
+ */
+public class DependencyIndex {
+    /** Member name recorded when a test uses a page in a way that cannot be narrowed down */
+    public static final String ALL_MEMBERS = "*";
+
+    private final Map<String, TestEntry> tests = new TreeMap<>();
+    private final Map<String, PageEntry> pages = new TreeMap<>();
+
+    public Map<String, TestEntry> getTests() {
+        return tests;
+    }
+
+    public Map<String, PageEntry> getPages() {
+        return pages;
+    }
+
+    public TestEntry getTest(String testClass) {
+        return tests.get(testClass);
+    }
+
+    public PageEntry getPage(String pageClass) {
+        return pages.get(pageClass);
+    }
+
+    /**
+     * Dependencies of a single test class
+     */
+    public static class TestEntry {
+        private final String file;
+        private final Set<String> dependencies = new TreeSet<>();
+        private final Map<String, Set<String>> usedMembers = new TreeMap<>();
+
+        public TestEntry(String file) {
+            this.file = file;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        /**
+         * @return Source files of superclasses and helpers in the tests package that the test relies on
+         */
+        public Set<String> getDependencies() {
+            return dependencies;
+        }
+
+        /**
+         * @return Page class name mapped to the page members (methods, locator fields) the test reaches
+         */
+        public Map<String, Set<String>> getUsedMembers() {
+            return usedMembers;
+        }
+    }
+
+    /**
+     * Source layout of a single page object
+     */
+    public static class PageEntry {
+        private final String file;
+        private final Map<String, List<int[]>> memberLines = new TreeMap<>();
+        private final Map<String, String> locators = new TreeMap<>();
+
+        public PageEntry(String file) {
+            this.file = file;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        /**
+         * @return Member name mapped to the inclusive line ranges it occupies in the source file
+         */
+        public Map<String, List<int[]>> getMemberLines() {
+            return memberLines;
+        }
+
+        /**
+         * @return @FindBy field name mapped to its locator
+         */
+        public Map<String, String> getLocators() {
+            return locators;
+        }
+
+        /**
+         * Find the members overlapping a changed line range
+         * @param from First changed line
+         * @param to Last changed line
+         * @return Names of the overlapping members, empty if the change is outside every member
+         */
+        public Set<String> membersAt(int from, int to) {
+            Set<String> members = new LinkedHashSet<>();
+            for (Map.Entry<String, List<int[]>> entry : memberLines.entrySet()) {
+                for (int[] range : entry.getValue()) {
+                    if (range[0] <= to && from <= range[1]) {
+                        members.add(entry.getKey());
+                    }
+                }
+            }
+            return members;
+        }
+    }
+
+    /**
+     * Write the index to disk, creating parent directories as needed
+     * @param file Target properties file
+     */
+    public void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        for (Map.Entry<String, TestEntry> test : tests.entrySet()) {
+            String prefix = "test/" + test.getKey() + "/";
+            properties.setProperty(prefix + "file", test.getValue().getFile());
+            if (!test.getValue().getDependencies().isEmpty()) {
+                properties.setProperty(prefix + "depends", String.join(",", test.getValue().getDependencies()));
+            }
+            for (Map.Entry<String, Set<String>> used : test.getValue().getUsedMembers().entrySet()) {
+                properties.setProperty(prefix + "uses/" + used.getKey(), String.join(",", used.getValue()));
+            }
+        }
+        for (Map.Entry<String, PageEntry> page : pages.entrySet()) {
+            String prefix = "page/" + page.getKey() + "/";
+            properties.setProperty(prefix + "file", page.getValue().getFile());
+            for (Map.Entry<String, List<int[]>> member : page.getValue().getMemberLines().entrySet()) {
+                List<String> ranges = new ArrayList<>();
+                for (int[] range : member.getValue()) {
+                    ranges.add(range[0] + "-" + range[1]);
+                }
+                properties.setProperty(prefix + "member/" + member.getKey(), String.join(",", ranges));
+            }
+            for (Map.Entry<String, String> locator : page.getValue().getLocators().entrySet()) {
+                properties.setProperty(prefix + "locator/" + locator.getKey(), locator.getValue());
+            }
+        }
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            properties.store(writer, "Page object to test dependency index");
+        }
+    }
+
+    /**
+     * Read an index previously written by {@link #save(Path)}
+     * @param file Source properties file
+     * @return The loaded index
+     */
+    public static DependencyIndex load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+
+        DependencyIndex index = new DependencyIndex();
+        // Resolve the file entries first so that every other key has an entry to attach to
+        for (String key : properties.stringPropertyNames()) {
+            String[] parts = key.split("/");
+            if (parts.length == 3 && parts[2].equals("file")) {
+                if (parts[0].equals("test")) {
+                    index.tests.put(parts[1], new TestEntry(properties.getProperty(key)));
+                } else if (parts[0].equals("page")) {
+                    index.pages.put(parts[1], new PageEntry(properties.getProperty(key)));
+                }
+            }
+        }
+        for (String key : properties.stringPropertyNames()) {
+            String[] parts = key.split("/");
+            String value = properties.getProperty(key);
+            if (parts.length == 3 && parts[0].equals("test") && parts[2].equals("depends")
+                    && index.tests.containsKey(parts[1])) {
+                Collections.addAll(index.tests.get(parts[1]).getDependencies(), value.split(","));
+            }
+            if (parts.length != 4) {
+                continue;
+            }
+            if (parts[0].equals("test") && parts[2].equals("uses") && index.tests.containsKey(parts[1])) {
+                Set<String> members = new LinkedHashSet<>();
+                Collections.addAll(members, value.split(","));
+                index.tests.get(parts[1]).getUsedMembers().put(parts[3], members);
+            } else if (parts[0].equals("page") && index.pages.containsKey(parts[1])) {
+                PageEntry page = index.pages.get(parts[1]);
+                if (parts[2].equals("member")) {
+                    List<int[]> ranges = new ArrayList<>();
+                    for (String range : value.split(",")) {
+                        String[] bounds = range.split("-");
+                        ranges.add(new int[] {Integer.parseInt(bounds[0]), Integer.parseInt(bounds[1])});
+                    }
+                    page.getMemberLines().put(parts[3], ranges);
+                } else if (parts[2].equals("locator")) {
+                    page.getLocators().put(parts[3], value);
+                }
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,292 @@
+package selection;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Build step that scans the test sources and writes the {@link DependencyIndex}.
+ * Page objects are read from the "pages" package and tests from the "tests" package.
+ * Superclasses and helpers in the "tests" package are recorded as dependencies of the tests that
+ * refer to them, and their page usage counts towards those tests.
+ * Run by exec-maven-plugin in the process-test-classes phase:
+ * <pre>
+ * java selection.DependencyIndexer &lt;source root&gt; &lt;index file&gt;
+ * </pre>
+ */
+public final class DependencyIndexer {
+    private static final String PAGES_PACKAGE = "pages";
+    private static final String TESTS_PACKAGE = "tests";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("\"(?:\\\\.|[^\"\\\\])*\"");
+    private static final Pattern LINE_COMMENT = Pattern.compile("//.*$");
+    private static final Pattern FIND_BY = Pattern.compile("@FindBy\\s*\\((.*)\\)");
+    private static final Pattern FIELD = Pattern.compile(
+        "^(?:(?:public|protected|private|static|final)\\s+)*[\\w<>\\[\\],.?]+\\s+(\\w+)\\s*(?:=.*)?;$");
+    private static final Pattern METHOD = Pattern.compile(
+        "^(?:(?:public|protected|private|static|final|synchronized)\\s+)*(?:[\\w<>\\[\\],.?]+\\s+)?(\\w+)\\s*\\([^;]*$");
+
+    private DependencyIndexer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path sourceRoot = Paths.get(args.length > 0 ? args[0] : "src/test/java");
+        Path indexFile = Paths.get(args.length > 1 ? args[1] : "target/test-selection/index.properties");
+
+        DependencyIndex index = build(sourceRoot);
+        index.save(indexFile);
+        System.out.println(String.format("Indexed %d test classes and %d page objects into %s",
+            index.getTests().size(), index.getPages().size(), indexFile));
+    }
+
+    /**
+     * Scan the page objects and tests below a source root
+     * @param sourceRoot Test source root, relative to the project directory
+     * @return The dependency index
+     */
+    public static DependencyIndex build(Path sourceRoot) throws IOException {
+        DependencyIndex index = new DependencyIndex();
+        Map<String, PageSource> pageSources = new LinkedHashMap<>();
+
+        for (Path file : listSources(sourceRoot.resolve(PAGES_PACKAGE))) {
+            PageSource page = parsePage(file);
+            pageSources.put(page.simpleName, page);
+            index.getPages().put(PAGES_PACKAGE + "." + page.simpleName, page.entry);
+        }
+
+        Map<String, Path> testFiles = new LinkedHashMap<>();
+        Map<String, String> testCode = new LinkedHashMap<>();
+        for (Path file : listSources(sourceRoot.resolve(TESTS_PACKAGE))) {
+            String simpleName = file.getFileName().toString().replace(".java", "");
+            testFiles.put(simpleName, file);
+            testCode.put(simpleName, String.join("\n", strip(Files.readAllLines(file))));
+        }
+
+        for (Map.Entry<String, Path> testFile : testFiles.entrySet()) {
+            String simpleName = testFile.getKey();
+            DependencyIndex.TestEntry test = new DependencyIndex.TestEntry(toPath(testFile.getValue()));
+            // Superclasses and helpers in the tests package count as part of the test
+            StringBuilder code = new StringBuilder(testCode.get(simpleName));
+            for (String dependency : findTestDependencies(simpleName, testCode)) {
+                test.getDependencies().add(toPath(testFiles.get(dependency)));
+                code.append('\n').append(testCode.get(dependency));
+            }
+            for (PageSource page : pageSources.values()) {
+                if (references(code.toString(), page.simpleName)) {
+                    addUsage(test, page, findCalledMembers(code.toString(), page), pageSources);
+                }
+            }
+            index.getTests().put(TESTS_PACKAGE + "." + simpleName, test);
+        }
+        return index;
+    }
+
+    /**
+     * Record the members a test reaches in a page, following calls and field references
+     * inside the page as well as other page objects the page itself refers to
+     */
+    private static void addUsage(DependencyIndex.TestEntry test, PageSource page, Set<String> called,
+                                 Map<String, PageSource> pageSources) {
+        String pageClass = PAGES_PACKAGE + "." + page.simpleName;
+        Set<String> used = test.getUsedMembers().computeIfAbsent(pageClass, key -> new LinkedHashSet<>());
+        if (used.contains(DependencyIndex.ALL_MEMBERS)) {
+            return;
+        }
+        if (called == null) {
+            used.clear();
+            used.add(DependencyIndex.ALL_MEMBERS);
+        } else {
+            // The constructor always runs when the page is created
+            called.add(page.simpleName);
+            Deque<String> pending = new ArrayDeque<>(called);
+            while (!pending.isEmpty()) {
+                String member = pending.pop();
+                if (!used.add(member) || !page.bodies.containsKey(member)) {
+                    continue;
+                }
+                for (String other : page.bodies.keySet()) {
+                    if (!used.contains(other) && references(page.bodies.get(member), other)) {
+                        pending.push(other);
+                    }
+                }
+            }
+        }
+
+        for (PageSource other : pageSources.values()) {
+            if (other != page && !test.getUsedMembers().containsKey(PAGES_PACKAGE + "." + other.simpleName)
+                    && references(page.code, other.simpleName)) {
+                addUsage(test, other, null, pageSources);
+            }
+        }
+    }
+
+    /**
+     * Find the other classes of the tests package a test refers to, directly or through each other
+     * @return Simple names of the referenced classes, excluding the test itself
+     */
+    private static Set<String> findTestDependencies(String simpleName, Map<String, String> testCode) {
+        Set<String> dependencies = new LinkedHashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.push(simpleName);
+        while (!pending.isEmpty()) {
+            String current = pending.pop();
+            for (String other : testCode.keySet()) {
+                if (!other.equals(simpleName) && !dependencies.contains(other)
+                        && references(testCode.get(current), other)) {
+                    dependencies.add(other);
+                    pending.push(other);
+                }
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * Find the page methods a test calls through variables of the page type
+     * @return Called member names, or null if the page is used without a recognizable variable
+     */
+    private static Set<String> findCalledMembers(String code, PageSource page) {
+        Set<String> called = new LinkedHashSet<>();
+        Matcher variables = Pattern.compile("\\b" + page.simpleName + "\\s+(\\w+)\\s*[;=]").matcher(code);
+        boolean found = false;
+        while (variables.find()) {
+            found = true;
+            Matcher calls = Pattern.compile("\\b" + variables.group(1) + "\\s*\\.\\s*(\\w+)\\s*\\(").matcher(code);
+            while (calls.find()) {
+                called.add(calls.group(1));
+            }
+        }
+        return found ? called : null;
+    }
+
+    /**
+     * Split a page object into members with their line ranges, bodies and @FindBy locators
+     */
+    private static PageSource parsePage(Path file) throws IOException {
+        List<String> raw = Files.readAllLines(file);
+        List<String> code = strip(raw);
+        PageSource page = new PageSource(file.getFileName().toString().replace(".java", ""), toPath(file));
+        page.code = String.join("\n", code);
+
+        int depth = 0;
+        int pendingStart = -1;
+        String pendingLocator = null;
+        String member = null;
+        int memberStart = -1;
+        boolean memberOpened = false;
+        StringBuilder body = new StringBuilder();
+
+        for (int i = 0; i < code.size(); i++) {
+            int line = i + 1;
+            String trimmed = code.get(i).trim();
+
+            if (depth == 1 && member == null && !trimmed.isEmpty() && !trimmed.startsWith("*") && !trimmed.startsWith("/*")) {
+                Matcher field = FIELD.matcher(trimmed);
+                Matcher method = METHOD.matcher(trimmed);
+                if (trimmed.startsWith("@")) {
+                    pendingStart = pendingStart < 0 ? line : pendingStart;
+                    Matcher findBy = FIND_BY.matcher(raw.get(i).trim());
+                    if (findBy.find()) {
+                        pendingLocator = findBy.group(1);
+                    }
+                } else if (field.matches()) {
+                    String name = field.group(1);
+                    page.addRange(name, pendingStart < 0 ? line : pendingStart, line);
+                    page.bodies.putIfAbsent(name, "");
+                    if (pendingLocator != null) {
+                        page.entry.getLocators().put(name, pendingLocator);
+                    }
+                    pendingStart = -1;
+                    pendingLocator = null;
+                } else if (method.matches()) {
+                    member = method.group(1);
+                    memberStart = pendingStart < 0 ? line : pendingStart;
+                    memberOpened = false;
+                    body.setLength(0);
+                    pendingStart = -1;
+                    pendingLocator = null;
+                }
+            }
+
+            depth += count(trimmed, '{') - count(trimmed, '}');
+            if (member != null) {
+                body.append(trimmed).append('\n');
+                memberOpened |= depth > 1;
+                if (memberOpened && depth <= 1) {
+                    page.addRange(member, memberStart, line);
+                    page.bodies.merge(member, body.toString(), String::concat);
+                    member = null;
+                }
+            }
+        }
+        return page;
+    }
+
+    private static List<Path> listSources(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".java")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Remove string literals and line comments so that braces and names inside them are ignored
+     */
+    private static List<String> strip(List<String> lines) {
+        List<String> stripped = new ArrayList<>();
+        for (String line : lines) {
+            String code = STRING_LITERAL.matcher(line).replaceAll("\"\"");
+            stripped.add(LINE_COMMENT.matcher(code).replaceAll(""));
+        }
+        return stripped;
+    }
+
+    private static boolean references(String code, String name) {
+        return Pattern.compile("\\b" + Pattern.quote(name) + "\\b").matcher(code).find();
+    }
+
+    private static int count(String text, char c) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == c) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String toPath(Path file) {
+        return file.normalize().toString().replace('\\', '/');
+    }
+
+    private static class PageSource {
+        private final String simpleName;
+        private final DependencyIndex.PageEntry entry;
+        private final Map<String, String> bodies = new LinkedHashMap<>();
+        private String code;
+
+        private PageSource(String simpleName, String file) {
+            this.simpleName = simpleName;
+            this.entry = new DependencyIndex.PageEntry(file);
+        }
+
+        private void addRange(String member, int from, int to) {
+            entry.getMemberLines().computeIfAbsent(member, key -> new ArrayList<>()).add(new int[] {from, to});
+        }
+    }
+}
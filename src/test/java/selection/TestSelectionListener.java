@@ -0,0 +1,108 @@
+package selection;
+
+import config.ConfigManager;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlPackage;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TestNG listener that narrows the suite to the test classes affected by the current git diff.
+ * Only active when selection.enabled is set; otherwise the suite runs unchanged.
+ * Runs before any Allure test exists, so it reports to the console and selection.txt
+ * instead of through TestUtils.log.
+ */
+public class TestSelectionListener implements IAlterSuiteListener {
+    private final ConfigManager config = ConfigManager.getInstance();
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        if (!config.isSelectionEnabled()) {
+            return;
+        }
+
+        Map<XmlTest, List<XmlClass>> testClasses = new LinkedHashMap<>();
+        Map<String, XmlClass> candidates = new LinkedHashMap<>();
+        for (XmlSuite suite : suites) {
+            for (XmlTest test : suite.getTests()) {
+                List<XmlClass> classes = new ArrayList<>(test.getXmlClasses());
+                for (XmlPackage xmlPackage : test.getXmlPackages()) {
+                    classes.addAll(xmlPackage.getXmlClasses());
+                }
+                testClasses.put(test, classes);
+                for (XmlClass xmlClass : classes) {
+                    candidates.put(xmlClass.getName(), xmlClass);
+                }
+            }
+        }
+
+        TestSelector selector = new TestSelector(loadIndex(), config.getSelectionSafetyClasses(),
+            config.getSelectionRunAllPaths());
+        Map<String, List<String>> selected = selector.select(candidates.keySet(), config.getSelectionBaseRef());
+
+        for (Map.Entry<XmlTest, List<XmlClass>> entry : testClasses.entrySet()) {
+            List<XmlClass> kept = new ArrayList<>();
+            for (XmlClass xmlClass : entry.getValue()) {
+                if (selected.containsKey(xmlClass.getName())) {
+                    kept.add(xmlClass);
+                }
+            }
+            entry.getKey().setXmlPackages(new ArrayList<>());
+            entry.getKey().setXmlClasses(kept);
+        }
+
+        report(candidates.size(), selected);
+    }
+
+    private DependencyIndex loadIndex() {
+        Path indexFile = Paths.get(config.getSelectionIndexFile());
+        if (!Files.exists(indexFile)) {
+            System.err.println("Dependency index not found: " + indexFile);
+            return null;
+        }
+        try {
+            return DependencyIndex.load(indexFile);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not read dependency index " + indexFile + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Print each selected class with its reasons and write the same report next to the index
+     */
+    private void report(int candidateCount, Map<String, List<String>> selected) {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("Selected %d of %d test classes against %s",
+            selected.size(), candidateCount, config.getSelectionBaseRef()));
+        for (Map.Entry<String, List<String>> entry : selected.entrySet()) {
+            lines.add(entry.getKey() + ": " + String.join("; ", entry.getValue()));
+        }
+        for (String line : lines) {
+            System.out.println(line);
+        }
+
+        Path reportFile = Paths.get(config.getSelectionIndexFile()).resolveSibling("selection.txt");
+        try {
+            if (reportFile.getParent() != null) {
+                Files.createDirectories(reportFile.getParent());
+            }
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(reportFile))) {
+                lines.forEach(out::println);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not write selection report " + reportFile + ": " + e.getMessage());
+        }
+    }
+}
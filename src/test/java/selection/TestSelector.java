@@ -0,0 +1,245 @@
+package selection;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Selects the test classes affected by the changes between a base git ref and the working tree,
+ * using the {@link DependencyIndex} written by {@link DependencyIndexer}
+ */
+public class TestSelector {
+    private static final Pattern HUNK = Pattern.compile("^@@ -\\d+(?:,\\d+)? \\+(\\d+)(?:,(\\d+))? @@");
+    private static final int[] WHOLE_FILE = {0, Integer.MAX_VALUE};
+
+    private final DependencyIndex index;
+    private final Set<String> safetyClasses;
+    private final List<String> runAllPaths;
+
+    /**
+     * @param index Dependency index, or null if none is available (selects everything)
+     * @param safetyClasses Test classes that always run
+     * @param runAllPaths Path prefixes of shared files whose change selects every test
+     */
+    public TestSelector(DependencyIndex index, Collection<String> safetyClasses, Collection<String> runAllPaths) {
+        this.index = index;
+        this.safetyClasses = new TreeSet<>(safetyClasses);
+        this.runAllPaths = new ArrayList<>(runAllPaths);
+    }
+
+    /**
+     * Select test classes against the merge base of a git ref and HEAD
+     * @param candidates Fully qualified names of the test classes in the suite
+     * @param baseRef Git ref to compare against, e.g. origin/main
+     * @return Selected class names mapped to the reasons they were selected; unselected classes are absent
+     */
+    public Map<String, List<String>> select(Collection<String> candidates, String baseRef) {
+        Map<String, List<int[]>> changes;
+        try {
+            changes = readChanges(baseRef);
+        } catch (IOException e) {
+            return selectAll(candidates, "git diff against " + baseRef + " unavailable: " + e.getMessage());
+        }
+        return select(candidates, changes);
+    }
+
+    /**
+     * Select test classes for a set of changed files
+     * @param candidates Fully qualified names of the test classes in the suite
+     * @param changes Changed file paths mapped to the changed line ranges in the new version
+     * @return Selected class names mapped to the reasons they were selected; unselected classes are absent
+     */
+    public Map<String, List<String>> select(Collection<String> candidates, Map<String, List<int[]>> changes) {
+        if (index == null) {
+            return selectAll(candidates, "no dependency index available");
+        }
+        for (String path : changes.keySet()) {
+            for (String prefix : runAllPaths) {
+                if (path.startsWith(prefix)) {
+                    return selectAll(candidates, "shared file changed: " + path);
+                }
+            }
+        }
+
+        Map<String, List<String>> selected = new LinkedHashMap<>();
+        for (String candidate : candidates) {
+            List<String> reasons = new ArrayList<>();
+            if (safetyClasses.contains(candidate)) {
+                reasons.add("in safety set");
+            }
+
+            DependencyIndex.TestEntry test = index.getTest(candidate);
+            if (test == null) {
+                reasons.add("not in dependency index");
+            } else {
+                if (changes.containsKey(test.getFile())) {
+                    reasons.add("test source changed: " + test.getFile());
+                }
+                for (String dependency : test.getDependencies()) {
+                    if (changes.containsKey(dependency)) {
+                        reasons.add("depends on changed " + dependency);
+                    }
+                }
+                for (Map.Entry<String, Set<String>> used : test.getUsedMembers().entrySet()) {
+                    String reason = describePageChange(used.getKey(), used.getValue(), changes);
+                    if (reason != null) {
+                        reasons.add(reason);
+                    }
+                }
+            }
+
+            if (!reasons.isEmpty()) {
+                selected.put(candidate, reasons);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * @return Why a change to a page affects a test using the given members, or null if it does not
+     */
+    private String describePageChange(String pageClass, Set<String> usedMembers, Map<String, List<int[]>> changes) {
+        DependencyIndex.PageEntry page = index.getPage(pageClass);
+        if (page == null || !changes.containsKey(page.getFile())) {
+            return null;
+        }
+        if (usedMembers.contains(DependencyIndex.ALL_MEMBERS)) {
+            return "uses changed page " + pageClass;
+        }
+
+        Set<String> touched = new TreeSet<>();
+        for (int[] range : changes.get(page.getFile())) {
+            Set<String> members = page.membersAt(range[0], range[1]);
+            if (members.isEmpty()) {
+                return "uses " + pageClass + ", changed outside any member";
+            }
+            members.retainAll(usedMembers);
+            touched.addAll(members);
+        }
+        if (touched.isEmpty()) {
+            return null;
+        }
+
+        List<String> described = new ArrayList<>();
+        for (String member : touched) {
+            String locator = page.getLocators().get(member);
+            described.add(locator != null ? member + " (" + locator + ")" : member);
+        }
+        return "uses changed " + pageClass + " members: " + String.join(", ", described);
+    }
+
+    private static Map<String, List<String>> selectAll(Collection<String> candidates, String reason) {
+        Map<String, List<String>> selected = new LinkedHashMap<>();
+        for (String candidate : candidates) {
+            List<String> reasons = new ArrayList<>();
+            reasons.add(reason);
+            selected.put(candidate, reasons);
+        }
+        return selected;
+    }
+
+    /**
+     * Read changed files and line ranges from git, including uncommitted and untracked files
+     */
+    private static Map<String, List<int[]>> readChanges(String baseRef) throws IOException {
+        List<String> mergeBase = git("merge-base", baseRef, "HEAD");
+        if (mergeBase.isEmpty()) {
+            throw new IOException("no merge base with " + baseRef);
+        }
+
+        String base = mergeBase.get(0).trim();
+        Map<String, List<int[]>> changes = parseChanges(
+            git("diff", "--name-status", "-M", "--relative", base, "--"),
+            git("diff", "-U0", "-M", "--no-color", "--relative", base, "--"));
+        for (String untracked : git("ls-files", "--others", "--exclude-standard")) {
+            changes.computeIfAbsent(untracked, key -> new ArrayList<>()).add(WHOLE_FILE);
+        }
+        return changes;
+    }
+
+    /**
+     * Combine the changed file list with the changed line ranges of text files.
+     * The file list comes from --name-status because binary changes, pure renames and mode
+     * changes produce no hunks; such files, and deleted or renamed-away paths, count as
+     * changed throughout.
+     * @param nameStatus Output of git diff --name-status
+     * @param diff Output of git diff -U0 over the same range
+     * @return Changed file paths mapped to the changed line ranges in the new version
+     */
+    public static Map<String, List<int[]>> parseChanges(List<String> nameStatus, List<String> diff) {
+        Map<String, List<int[]>> hunks = new LinkedHashMap<>();
+        String file = null;
+        for (String line : diff) {
+            if (line.startsWith("diff --git ")) {
+                file = null;
+            } else if (line.startsWith("+++ b/")) {
+                file = line.substring(6);
+            } else if (file != null) {
+                Matcher hunk = HUNK.matcher(line);
+                if (hunk.find()) {
+                    int start = Integer.parseInt(hunk.group(1));
+                    int count = hunk.group(2) != null ? Integer.parseInt(hunk.group(2)) : 1;
+                    // A pure deletion sits between two lines of the new file
+                    int[] range = count == 0 ? new int[] {start, start + 1} : new int[] {start, start + count - 1};
+                    hunks.computeIfAbsent(file, key -> new ArrayList<>()).add(range);
+                }
+            }
+        }
+
+        Map<String, List<int[]>> changes = new LinkedHashMap<>();
+        for (String line : nameStatus) {
+            String[] parts = line.split("\t");
+            if (parts.length < 2) {
+                continue;
+            }
+            boolean deleted = parts[0].startsWith("D");
+            for (int i = 1; i < parts.length; i++) {
+                // Renames and copies list the old path first; only the last path exists in the new version
+                List<int[]> ranges = !deleted && i == parts.length - 1 ? hunks.get(parts[i]) : null;
+                List<int[]> target = changes.computeIfAbsent(parts[i], key -> new ArrayList<>());
+                if (ranges != null) {
+                    target.addAll(ranges);
+                } else {
+                    target.add(WHOLE_FILE);
+                }
+            }
+        }
+        return changes;
+    }
+
+    private static List<String> git(String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        for (String arg : args) {
+            command.add(arg);
+        }
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        List<String> output = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.add(line);
+            }
+        }
+        try {
+            if (process.waitFor() != 0) {
+                throw new IOException("git " + String.join(" ", args) + " failed: " + String.join(" ", output));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("git " + String.join(" ", args) + " was interrupted", e);
+        }
+        return output;
+    }
+}
@@ -0,0 +1,96 @@
+package unittests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import reporting.AllureHistoryStore;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Rolling history store: trimming to the run limit and expiring tests that stopped running
+ */
+public class AllureHistoryStoreTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private Path store;
+
+    @BeforeMethod
+    public void createStore() throws Exception {
+        store = Files.createTempDirectory("allure-history");
+    }
+
+    @Test
+    public void trimsHistoryAndTrendsToLimit() throws Exception {
+        AllureHistoryStore history = new AllureHistoryStore(store, 2);
+        for (int run = 1; run <= 3; run++) {
+            assertEquals(history.update(run(run, "login")), 1);
+        }
+
+        JsonNode items = read("history.json").get("login").get("items");
+        assertEquals(items.size(), 2);
+        assertEquals(items.get(0).get("uid").asText(), "login-3");
+        assertEquals(items.get(1).get("uid").asText(), "login-2");
+        assertEquals(read("history.json").get("login").get("statistic").get("total").asInt(), 2);
+
+        JsonNode trend = read("history-trend.json");
+        assertEquals(trend.size(), 2);
+        assertEquals(trend.get(0).get("buildOrder").asLong(), 3);
+        assertEquals(read("duration-trend.json").size(), 2);
+    }
+
+    @Test
+    public void dropsTestsNotRunWithinWindow() throws Exception {
+        AllureHistoryStore history = new AllureHistoryStore(store, 2);
+        history.update(run(1, "login", "search"));
+        history.update(run(2, "login"));
+        assertTrue(read("history.json").has("search"));
+
+        history.update(run(3, "login"));
+        assertFalse(read("history.json").has("search"));
+        assertTrue(read("history.json").has("login"));
+    }
+
+    @Test
+    public void copiesPreviousHistoryAndSkipsRecordedResults() throws Exception {
+        AllureHistoryStore history = new AllureHistoryStore(store, 5);
+        history.update(run(1, "login"));
+        Path second = run(2, "login");
+
+        assertEquals(history.update(second), 1);
+        // The report sees only the earlier run; Allure adds the current one itself
+        JsonNode copied = mapper.readTree(second.resolve("history/history.json").toFile());
+        assertEquals(copied.get("login").get("items").size(), 1);
+        assertEquals(copied.get("login").get("items").get(0).get("uid").asText(), "login-1");
+
+        assertEquals(history.update(second), 0);
+        assertEquals(read("history-trend.json").size(), 2);
+    }
+
+    /**
+     * Create a results directory for one run with a passed result per history id
+     */
+    private Path run(int run, String... historyIds) throws Exception {
+        Path results = Files.createTempDirectory("allure-results");
+        for (String historyId : historyIds) {
+            ObjectNode result = mapper.createObjectNode();
+            result.put("uuid", historyId + "-" + run);
+            result.put("historyId", historyId);
+            result.put("status", "passed");
+            result.put("start", run * 100_000L);
+            result.put("stop", run * 100_000L + 5_000L);
+            mapper.writeValue(results.resolve(historyId + "-" + run + "-result.json").toFile(), result);
+        }
+        return results;
+    }
+
+    private JsonNode read(String name) throws Exception {
+        return mapper.readTree(store.resolve(name).toFile());
+    }
+}
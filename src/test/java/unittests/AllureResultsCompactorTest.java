@@ -0,0 +1,145 @@
+package unittests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import reporting.AllureResultsCompactor;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Compaction of a results directory: log merging, deduplication and idempotency
+ */
+public class AllureResultsCompactorTest {
+    private static final byte[] SCREENSHOT = {(byte) 0x89, 'P', 'N', 'G', 1, 2, 3};
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private Path results;
+
+    @BeforeMethod
+    public void createResults() throws Exception {
+        results = Files.createTempDirectory("allure-results");
+        writeAttachment("b1-attachment.png", SCREENSHOT);
+        writeAttachment("b2-attachment.txt", "[INFO] first".getBytes(StandardCharsets.UTF_8));
+        writeAttachment("b3-attachment.txt", "[INFO] second".getBytes(StandardCharsets.UTF_8));
+        writeResult("b-result.json", "b", attachment("Log: INFO", "b2-attachment.txt", "text/plain"),
+            attachment("Log: INFO", "b3-attachment.txt", "text/plain"),
+            attachment("Screenshot", "b1-attachment.png", "image/png"));
+        // Shares the screenshot file with the first result
+        writeResult("c-result.json", "c", attachment("Screenshot", "b1-attachment.png", "image/png"));
+    }
+
+    @Test
+    public void mergesLogsAndKeepsEveryReference() throws Exception {
+        new AllureResultsCompactor(results).compact();
+
+        JsonNode attachments = mapper.readTree(results.resolve("b-result.json").toFile()).get("attachments");
+        assertEquals(attachments.size(), 2);
+        assertEquals(attachments.get(0).get("name").asText(), "Log");
+        String merged = new String(Files.readAllBytes(results.resolve(attachments.get(0).get("source").asText())),
+            StandardCharsets.UTF_8);
+        assertEquals(merged, "[INFO] first\n[INFO] second\n");
+        assertAllSourcesExist();
+        assertEquals(listAttachments().size(), 2);
+    }
+
+    @Test
+    public void secondCompactionChangesNothing() throws Exception {
+        new AllureResultsCompactor(results).compact();
+        Map<String, String> before = snapshot();
+
+        AllureResultsCompactor again = new AllureResultsCompactor(results);
+        again.compact();
+
+        assertEquals(snapshot(), before);
+        assertEquals(again.getMergedAttachments(), 0);
+        assertEquals(again.getDuplicateAttachments(), 0);
+        assertEquals(again.getDeletedFiles(), 0);
+    }
+
+    @Test
+    public void keepsSharedFilesWhenNewRunAddsIdenticalAttachment() throws Exception {
+        new AllureResultsCompactor(results).compact();
+
+        // A later run in the same directory; sorts before the existing files
+        writeAttachment("a1-attachment.png", SCREENSHOT);
+        writeResult("a-result.json", "a", attachment("Screenshot", "a1-attachment.png", "image/png"));
+        AllureResultsCompactor compactor = new AllureResultsCompactor(results);
+        compactor.compact();
+
+        assertAllSourcesExist();
+        assertEquals(compactor.getDuplicateAttachments(), 2);
+        assertEquals(compactor.getDeletedFiles(), 1);
+    }
+
+    private void assertAllSourcesExist() throws Exception {
+        for (Path file : listResults()) {
+            for (JsonNode source : mapper.readTree(file.toFile()).findValues("source")) {
+                assertTrue(Files.exists(results.resolve(source.asText())),
+                    file.getFileName() + " refers to missing " + source.asText());
+            }
+        }
+    }
+
+    private Map<String, String> snapshot() throws Exception {
+        Map<String, String> contents = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(results)) {
+            for (Path file : files) {
+                contents.put(file.getFileName().toString(),
+                    new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1));
+            }
+        }
+        return contents;
+    }
+
+    private List<Path> listResults() throws Exception {
+        return list("*-result.json");
+    }
+
+    private List<Path> listAttachments() throws Exception {
+        return list("*-attachment*");
+    }
+
+    private List<Path> list(String glob) throws Exception {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(results, glob)) {
+            files.forEach(paths::add);
+        }
+        return paths;
+    }
+
+    private ObjectNode attachment(String name, String source, String type) {
+        ObjectNode attachment = mapper.createObjectNode();
+        attachment.put("name", name);
+        attachment.put("source", source);
+        attachment.put("type", type);
+        return attachment;
+    }
+
+    private void writeResult(String fileName, String uuid, ObjectNode... attachments) throws Exception {
+        ObjectNode result = mapper.createObjectNode();
+        result.put("uuid", uuid);
+        ArrayNode array = result.putArray("attachments");
+        for (ObjectNode attachment : attachments) {
+            array.add(attachment);
+        }
+        mapper.writeValue(results.resolve(fileName).toFile(), result);
+    }
+
+    private void writeAttachment(String fileName, byte[] content) throws Exception {
+        Files.write(results.resolve(fileName), content);
+    }
+}
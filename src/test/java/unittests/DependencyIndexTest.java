@@ -0,0 +1,48 @@
+package unittests;
+
+import org.testng.annotations.Test;
+import selection.DependencyIndex;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Save/load round trip of the on-disk index
+ */
+public class DependencyIndexTest {
+
+    @Test
+    public void roundTripsThroughPropertiesFile() throws Exception {
+        DependencyIndex index = new DependencyIndex();
+        DependencyIndex.PageEntry page = new DependencyIndex.PageEntry("src/test/java/pages/LoginPage.java");
+        page.getMemberLines().put("login", Arrays.asList(new int[] {120, 172}));
+        page.getMemberLines().put("clickLogin", Arrays.asList(new int[] {110, 118}, new int[] {200, 205}));
+        page.getLocators().put("loginButton", "xpath = \"//Button[@Name='Log in']\"");
+        index.getPages().put("pages.LoginPage", page);
+
+        DependencyIndex.TestEntry test = new DependencyIndex.TestEntry("src/test/java/tests/LoginTest.java");
+        test.getDependencies().add("src/test/java/tests/LoginTestBase.java");
+        test.getUsedMembers().put("pages.LoginPage", new LinkedHashSet<>(Arrays.asList("login", "loginButton")));
+        index.getTests().put("tests.LoginTest", test);
+
+        Path file = Files.createTempDirectory("dependency-index").resolve("nested/index.properties");
+        index.save(file);
+        DependencyIndex loaded = DependencyIndex.load(file);
+
+        DependencyIndex.PageEntry loadedPage = loaded.getPage("pages.LoginPage");
+        assertEquals(loadedPage.getFile(), page.getFile());
+        assertEquals(loadedPage.getLocators(), page.getLocators());
+        assertEquals(loadedPage.getMemberLines().keySet(), page.getMemberLines().keySet());
+        assertEquals(loadedPage.getMemberLines().get("login").get(0), new int[] {120, 172});
+        assertEquals(loadedPage.getMemberLines().get("clickLogin").get(1), new int[] {200, 205});
+
+        DependencyIndex.TestEntry loadedTest = loaded.getTest("tests.LoginTest");
+        assertEquals(loadedTest.getFile(), test.getFile());
+        assertEquals(loadedTest.getDependencies(), test.getDependencies());
+        assertEquals(loadedTest.getUsedMembers(), test.getUsedMembers());
+    }
+}
@@ -0,0 +1,146 @@
+package unittests;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import selection.DependencyIndex;
+import selection.DependencyIndexer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Indexes a small fixture page object and tests and checks what the index records
+ */
+public class DependencyIndexerTest {
+    private Path sourceRoot;
+    private DependencyIndex index;
+
+    @BeforeClass
+    public void buildIndex() throws Exception {
+        sourceRoot = Files.createTempDirectory("dependency-index");
+        write("pages/SearchPage.java",
+            "package pages;",
+            "",
+            "public class SearchPage extends TestBase {",
+            "    @FindBy(xpath = \"//Edit[@Name='Search']\")",
+            "    private WebElement searchField;",
+            "",
+            "    @FindBy(xpath = \"//Button[@Name='Go']\")",
+            "    private WebElement goButton;",
+            "",
+            "    @FindBy(xpath = \"//List[@Name='Results']\")",
+            "    private WebElement results;",
+            "",
+            "    public SearchPage() {",
+            "        PageFactory.initElements(driver, this);",
+            "    }",
+            "",
+            "    public void search(String text) {",
+            "        searchField.sendKeys(text);",
+            "        submit();",
+            "    }",
+            "",
+            "    private void submit() {",
+            "        goButton.click();",
+            "    }",
+            "",
+            "    public boolean hasResults() {",
+            "        return results.isDisplayed();",
+            "    }",
+            "}");
+        write("tests/SearchTestBase.java",
+            "package tests;",
+            "",
+            "public class SearchTestBase {",
+            "    protected SearchPage searchPage;",
+            "",
+            "    protected void searchFor(String text) {",
+            "        searchPage.search(text);",
+            "    }",
+            "}");
+        write("tests/SearchTest.java",
+            "package tests;",
+            "",
+            "public class SearchTest extends SearchTestBase {",
+            "    public void testSearch() {",
+            "        searchFor(\"shoes\");",
+            "    }",
+            "}");
+        write("tests/ResultsTest.java",
+            "package tests;",
+            "",
+            "public class ResultsTest {",
+            "    public void testResults() {",
+            "        new SearchPage().hasResults();",
+            "    }",
+            "}");
+
+        index = DependencyIndexer.build(sourceRoot);
+    }
+
+    @Test
+    public void recordsMemberLineRanges() {
+        DependencyIndex.PageEntry page = index.getPage("pages.SearchPage");
+        assertNotNull(page);
+        assertRange(page, "searchField", 4, 5);
+        assertRange(page, "goButton", 7, 8);
+        assertRange(page, "results", 10, 11);
+        assertRange(page, "SearchPage", 13, 15);
+        assertRange(page, "search", 17, 20);
+        assertRange(page, "submit", 22, 24);
+        assertRange(page, "hasResults", 26, 28);
+    }
+
+    @Test
+    public void recordsFindByLocators() {
+        DependencyIndex.PageEntry page = index.getPage("pages.SearchPage");
+        assertEquals(page.getLocators().get("searchField"), "xpath = \"//Edit[@Name='Search']\"");
+        assertEquals(page.getLocators().get("goButton"), "xpath = \"//Button[@Name='Go']\"");
+        assertEquals(page.getLocators().size(), 3);
+    }
+
+    @Test
+    public void followsCalledMembersTransitivelyThroughTestSuperclass() {
+        DependencyIndex.TestEntry test = index.getTest("tests.SearchTest");
+        assertNotNull(test);
+        assertEquals(test.getUsedMembers().get("pages.SearchPage"),
+            set("SearchPage", "search", "searchField", "submit", "goButton"));
+        assertEquals(test.getDependencies(), set(path("tests/SearchTestBase.java")));
+    }
+
+    @Test
+    public void usesAllMembersWithoutPageVariable() {
+        DependencyIndex.TestEntry test = index.getTest("tests.ResultsTest");
+        assertEquals(test.getUsedMembers().get("pages.SearchPage"), set(DependencyIndex.ALL_MEMBERS));
+        assertTrue(test.getDependencies().isEmpty());
+    }
+
+    private void assertRange(DependencyIndex.PageEntry page, String member, int from, int to) {
+        List<int[]> ranges = page.getMemberLines().get(member);
+        assertNotNull(ranges, member);
+        assertEquals(ranges.size(), 1, member);
+        assertEquals(ranges.get(0), new int[] {from, to}, member);
+    }
+
+    private void write(String relativePath, String... lines) throws Exception {
+        Path file = sourceRoot.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.write(file, Arrays.asList(lines));
+    }
+
+    private String path(String relativePath) {
+        return sourceRoot.resolve(relativePath).normalize().toString().replace('\\', '/');
+    }
+
+    private static Set<String> set(String... values) {
+        return new LinkedHashSet<>(Arrays.asList(values));
+    }
+}
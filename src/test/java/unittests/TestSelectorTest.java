@@ -0,0 +1,174 @@
+package unittests;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import selection.DependencyIndex;
+import selection.TestSelector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Selection over a hand-built index, without git
+ */
+public class TestSelectorTest {
+    private static final String PAGE_FILE = "src/test/java/pages/SearchPage.java";
+    private static final String SEARCH_TEST_FILE = "src/test/java/tests/SearchTest.java";
+    private static final String BASE_FILE = "src/test/java/tests/SearchTestBase.java";
+    private static final List<String> CANDIDATES = Arrays.asList("tests.SearchTest", "tests.ResultsTest");
+
+    private DependencyIndex index;
+
+    @BeforeMethod
+    public void createIndex() {
+        index = new DependencyIndex();
+
+        DependencyIndex.PageEntry page = new DependencyIndex.PageEntry(PAGE_FILE);
+        page.getMemberLines().put("searchField", ranges(4, 5));
+        page.getMemberLines().put("results", ranges(10, 11));
+        page.getMemberLines().put("search", ranges(17, 20));
+        page.getMemberLines().put("hasResults", ranges(26, 28));
+        page.getLocators().put("searchField", "xpath = \"//Edit[@Name='Search']\"");
+        page.getLocators().put("results", "xpath = \"//List[@Name='Results']\"");
+        index.getPages().put("pages.SearchPage", page);
+
+        DependencyIndex.TestEntry searchTest = new DependencyIndex.TestEntry(SEARCH_TEST_FILE);
+        searchTest.getDependencies().add(BASE_FILE);
+        searchTest.getUsedMembers().put("pages.SearchPage", set("search", "searchField"));
+        index.getTests().put("tests.SearchTest", searchTest);
+
+        DependencyIndex.TestEntry resultsTest = new DependencyIndex.TestEntry("src/test/java/tests/ResultsTest.java");
+        resultsTest.getUsedMembers().put("pages.SearchPage", set("hasResults", "results"));
+        index.getTests().put("tests.ResultsTest", resultsTest);
+    }
+
+    @Test
+    public void selectsTestsUsingChangedMember() {
+        Map<String, List<String>> selected = selector().select(CANDIDATES, changes(PAGE_FILE, 18, 18));
+        assertEquals(selected.keySet(), set("tests.SearchTest"));
+        assertEquals(selected.get("tests.SearchTest"),
+            Collections.singletonList("uses changed pages.SearchPage members: search"));
+    }
+
+    @Test
+    public void reportsChangedLocator() {
+        Map<String, List<String>> selected = selector().select(CANDIDATES, changes(PAGE_FILE, 11, 11));
+        assertEquals(selected.keySet(), set("tests.ResultsTest"));
+        assertEquals(selected.get("tests.ResultsTest"), Collections.singletonList(
+            "uses changed pages.SearchPage members: results (xpath = \"//List[@Name='Results']\")"));
+    }
+
+    @Test
+    public void selectsAllUsersWhenChangeIsOutsideAnyMember() {
+        Map<String, List<String>> selected = selector().select(CANDIDATES, changes(PAGE_FILE, 1, 2));
+        assertEquals(selected.keySet(), set("tests.SearchTest", "tests.ResultsTest"));
+        assertEquals(selected.get("tests.ResultsTest"),
+            Collections.singletonList("uses pages.SearchPage, changed outside any member"));
+    }
+
+    @Test
+    public void selectsEverythingForRunAllPrefix() {
+        Map<String, List<String>> selected = selector().select(CANDIDATES, changes("Release/shop.exe", 0, Integer.MAX_VALUE));
+        assertEquals(selected.keySet(), set("tests.SearchTest", "tests.ResultsTest"));
+        assertEquals(selected.get("tests.SearchTest"), Collections.singletonList("shared file changed: Release/shop.exe"));
+    }
+
+    @Test
+    public void alwaysSelectsSafetySet() {
+        TestSelector selector = new TestSelector(index, Collections.singletonList("tests.ResultsTest"),
+            Collections.singletonList("Release/"));
+        Map<String, List<String>> selected = selector.select(CANDIDATES, changes("README.md", 1, 1));
+        assertEquals(selected.keySet(), set("tests.ResultsTest"));
+        assertEquals(selected.get("tests.ResultsTest"), Collections.singletonList("in safety set"));
+    }
+
+    @Test
+    public void selectsTestWhenDependencyChanged() {
+        Map<String, List<String>> selected = selector().select(CANDIDATES, changes(BASE_FILE, 3, 3));
+        assertEquals(selected.keySet(), set("tests.SearchTest"));
+        assertEquals(selected.get("tests.SearchTest"), Collections.singletonList("depends on changed " + BASE_FILE));
+    }
+
+    @Test
+    public void selectsTestsMissingFromIndex() {
+        Map<String, List<String>> selected = selector().select(
+            Arrays.asList("tests.SearchTest", "tests.NewTest"), new LinkedHashMap<>());
+        assertEquals(selected.keySet(), set("tests.NewTest"));
+        assertEquals(selected.get("tests.NewTest"), Collections.singletonList("not in dependency index"));
+    }
+
+    @Test
+    public void parsesBinaryRenamedAndTextChanges() {
+        List<String> nameStatus = Arrays.asList(
+            "M\tRelease/shop.exe",
+            "R100\tsrc/test/java/tests/OldTest.java\tsrc/test/java/tests/NewTest.java",
+            "M\t" + PAGE_FILE,
+            "D\tREADME.md");
+        List<String> diff = Arrays.asList(
+            "diff --git a/Release/shop.exe b/Release/shop.exe",
+            "index 1111111..2222222 100644",
+            "Binary files a/Release/shop.exe and b/Release/shop.exe differ",
+            "diff --git a/src/test/java/tests/OldTest.java b/src/test/java/tests/NewTest.java",
+            "similarity index 100%",
+            "rename from src/test/java/tests/OldTest.java",
+            "rename to src/test/java/tests/NewTest.java",
+            "diff --git a/" + PAGE_FILE + " b/" + PAGE_FILE,
+            "--- a/" + PAGE_FILE,
+            "+++ b/" + PAGE_FILE,
+            "@@ -18 +18,2 @@",
+            "-        searchField.sendKeys(text);",
+            "+        searchField.clear();",
+            "+        searchField.sendKeys(text);",
+            "@@ -30,2 +31,0 @@",
+            "diff --git a/README.md b/README.md",
+            "deleted file mode 100644",
+            "--- a/README.md",
+            "+++ /dev/null",
+            "@@ -1 +0,0 @@");
+
+        Map<String, List<int[]>> changes = TestSelector.parseChanges(nameStatus, diff);
+
+        assertEquals(changes.keySet(), set("Release/shop.exe", "src/test/java/tests/OldTest.java",
+            "src/test/java/tests/NewTest.java", PAGE_FILE, "README.md"));
+        assertWholeFile(changes.get("Release/shop.exe"));
+        assertWholeFile(changes.get("src/test/java/tests/OldTest.java"));
+        assertWholeFile(changes.get("src/test/java/tests/NewTest.java"));
+        assertWholeFile(changes.get("README.md"));
+        assertEquals(changes.get(PAGE_FILE).size(), 2);
+        assertEquals(changes.get(PAGE_FILE).get(0), new int[] {18, 19});
+        assertEquals(changes.get(PAGE_FILE).get(1), new int[] {31, 32});
+    }
+
+    private TestSelector selector() {
+        return new TestSelector(index, Collections.emptyList(), Arrays.asList("Release/", "pom.xml"));
+    }
+
+    private static void assertWholeFile(List<int[]> ranges) {
+        assertEquals(ranges.size(), 1);
+        assertEquals(ranges.get(0), new int[] {0, Integer.MAX_VALUE});
+    }
+
+    private static Map<String, List<int[]>> changes(String file, int from, int to) {
+        Map<String, List<int[]>> changes = new LinkedHashMap<>();
+        changes.put(file, ranges(from, to));
+        return changes;
+    }
+
+    private static List<int[]> ranges(int from, int to) {
+        List<int[]> ranges = new ArrayList<>();
+        ranges.add(new int[] {from, to});
+        return ranges;
+    }
+
+    private static Set<String> set(String... values) {
+        return new LinkedHashSet<>(Arrays.asList(values));
+    }
+}
@@ -9,6 +9,7 @@ import org.openqa.selenium.interactions.PointerInput;
 import org.openqa.selenium.interactions.Sequence;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import profiling.WaitEvent;
 
 import java.io.ByteArrayInputStream;
 import java.time.Duration;
@@ -106,26 +107,32 @@ public class TestUtils {
      */
     public static boolean waitForElement(WebElement element, long timeoutInSeconds) {
         log(String.format("Waiting for element (timeout: %ds)", timeoutInSeconds));
-        long startTime = System.currentTimeMillis();
-        while ((System.currentTimeMillis() - startTime) < timeoutInSeconds * 1000) {
-            try {
-                if (element.isDisplayed()) {
-                    log("Element is now visible");
-                    return true;
+        WaitEvent event = WaitEvent.start("element to be displayed: " + element);
+        try {
+            long startTime = System.currentTimeMillis();
+            while ((System.currentTimeMillis() - startTime) < timeoutInSeconds * 1000) {
+                try {
+                    if (element.isDisplayed()) {
+                        log("Element is now visible");
+                        return true;
+                    }
+                } catch (Exception e) {
+                    // Element not found, continue waiting
+                }
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log("Wait for element was interrupted", "WARN");
+                    return false;
                 }
-            } catch (Exception e) {
-                // Element not found, continue waiting
-            }
-            try {
-                Thread.sleep(500);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log("Wait for element was interrupted", "WARN");
-                return false;
             }
+            event.setTimedOut(true);
+            log("Element not found within timeout", "WARN");
+            return false;
+        } finally {
+            event.commit();
         }
-        log("Element not found within timeout", "WARN");
-        return false;
     }
     
     /**